@@ -1,6 +1,8 @@
 package Race.Condition.Demo.Project;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.retry.annotation.Recover;
@@ -8,6 +10,8 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @EnableRetry
@@ -18,9 +22,14 @@ public class CreditCardService {
     private final CustomerRepository customerRepository;
     private final HistoryRepository historyRepository;
     private final HistoryService historyService;
-
- /*   @Retryable(value = org.springframework.dao.CannotAcquireLockException.class, maxAttempts = 15, backoff = @Backoff(delay = 1000), recover = "sendTransactionRecover")
-    @Transactional(isolation = Isolation.REPEATABLE_READ)*/
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Customer is versioned, so a concurrent credit fails the save instead of overwriting it; retry it with fresh data.
+    // Other failures are not retried and reach the caller.
+    @Retryable(retryFor = ObjectOptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${credit-card.retry.max-attempts:15}",
+            backoff = @Backoff(delay = 10, multiplier = 2, maxDelay = 1000, random = true), recover = "sendTransactionRecover")
+ /*   @Transactional(isolation = Isolation.REPEATABLE_READ)*/
     public void sendTransaction(CreditCardTransaction transaction) {
         sendTransactionHandle(transaction);
     }
@@ -29,9 +38,12 @@ public class CreditCardService {
         try {
             if (transaction.getCustomerFirstName() != null) {
                 customerRepository.findByFirstName(transaction.getCustomerFirstName()).ifPresentOrElse(customer -> {
-                    historyService.saveMessageToHistory(transaction, "RECEIVED");
                     customer.setBalance(customer.getBalance() + transaction.getAmount());
-                    customerRepository.save(customer);
+                    Customer saved = customerRepository.save(customer);
+                    // only after the save, so a retried credit is recorded once
+                    historyService.saveMessageToHistory(transaction, "RECEIVED");
+                    publishAfterCommit(new CustomerBalanceChangedEvent(
+                            saved.getFirstName(), saved.getBalance(), saved.getVersion()));
                     System.out.printf("The account balance of customer %s has changed: %s%n",
                             customer.getFirstName() + " " + customer.getLastName(), transaction.getAmount());
                 }, () -> {
@@ -42,21 +54,37 @@ public class CreditCardService {
                 System.err.println("Error during adding transaction, no IDs given");
                 historyService.saveMessageToHistory(transaction, "CORRUPTED");
             }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
             System.out.println("sendTransactionHandle has exception: " + e);
             throw new RuntimeException(e);
         }
     }
 
-    @Recover
-    public void sendTransactionRecover(Exception exception, CreditCardTransaction transaction) {
-        try {
-            System.out.println("sendTransactionRecover has exception: " + exception);
-        } catch (Exception e) {
-            System.out.println("sendTransactionRecover has error. class name:" + e.getClass().getName() + " ERROR!!!" + e.getMessage());
+    // Readers must never see a balance that is later rolled back, so the event waits for the commit.
+    // Without a surrounding transaction the repository save has already committed.
+    private void publishAfterCommit(CustomerBalanceChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(event);
+                }
+            });
+        } else {
+            eventPublisher.publishEvent(event);
         }
     }
 
+    // Every attempt lost against a concurrent credit: keep a trace of the rejected credit and tell the caller.
+    @Recover
+    public void sendTransactionRecover(ObjectOptimisticLockingFailureException exception, CreditCardTransaction transaction) {
+        System.err.println("sendTransactionRecover gave up after concurrent updates: " + exception);
+        historyService.saveMessageToHistory(transaction, "FAILED");
+        throw exception;
+    }
+
 }
 
 //http://localhost:8080/h2-console
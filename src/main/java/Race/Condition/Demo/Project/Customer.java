@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,6 +33,10 @@ public class Customer {
 
     private int balance;
 
+    /** Incremented by every update, lets readers of balance events drop stale ones. */
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(updatable = false, nullable = false)
     private LocalDateTime created;
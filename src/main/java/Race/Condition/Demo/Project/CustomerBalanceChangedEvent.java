@@ -0,0 +1,13 @@
+package Race.Condition.Demo.Project;
+
+import lombok.Value;
+
+/**
+ * Published by {@link CreditCardService} once a balance change is committed.
+ */
+@Value
+public class CustomerBalanceChangedEvent {
+    String customerFirstName;
+    int balance;
+    long version;
+}
@@ -1,6 +1,7 @@
 package Race.Condition.Demo.Project;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -8,4 +9,7 @@ import java.util.Optional;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByFirstName(String firstName);
+
+    @Query("select coalesce(sum(c.balance), 0) from Customer c")
+    long sumBalances();
 }
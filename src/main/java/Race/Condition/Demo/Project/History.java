@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
-@Table(name = "history")
+@Table(name = "history", indexes = @Index(name = "idx_history_created", columnList = "created"))
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,33 @@
+package Race.Condition.Demo.Project;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "history.archive")
+public class HistoryArchiveProperties {
+
+    /** Runs the archival job; archived days stay queryable when disabled. */
+    private boolean enabled = true;
+
+    /** Directory holding the compressed segment files of archived days. */
+    private Path directory = Path.of("history-archive");
+
+    /**
+     * Deletes archived segments on startup. Needed while the database does not outlive the process
+     * (in-memory H2 with create-drop): ids start again at 1, and old segments would be read as the
+     * new database's history.
+     */
+    private boolean clearOnStartup = false;
+
+    /** Days kept in the history table; older days are moved to the archive. */
+    private int retentionDays = 30;
+
+    /** Rows read from the table and written to one archive segment at a time. */
+    private int chunkSize = 5_000;
+
+    /** Rows removed from the table per delete statement, keeping each delete transaction short. */
+    private int deleteBatchSize = 500;
+}
@@ -0,0 +1,317 @@
+package Race.Condition.Demo.Project;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archived days of {@link History}, each as one or more gzip segment files. Rows are stored column by column
+ * (delta-encoded ids and timestamps, dictionary-encoded names and statuses), which
+ * compresses far better than row-by-row output.
+ */
+@Component
+@EnableConfigurationProperties(HistoryArchiveProperties.class)
+@RequiredArgsConstructor
+public class HistoryArchiveStore {
+
+    private static final int MAGIC = 0x48495354; // "HIST"
+    private static final int VERSION = 1;
+    private static final String TEMP_PREFIX = "history-";
+    // history-<yyyy-MM-dd>.<sequence>.col.gz
+    private static final Pattern SEGMENT = Pattern.compile("history-(\\d{4}-\\d{2}-\\d{2})\\.(\\d+)\\.col\\.gz");
+
+    private final HistoryArchiveProperties properties;
+
+    @PostConstruct
+    void clearIfConfigured() {
+        if (!properties.isClearOnStartup()) {
+            return;
+        }
+        List<String> segments = listSegments().toList();
+        try {
+            for (String segment : segments) {
+                Files.delete(properties.getDirectory().resolve(segment));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear history archive " + properties.getDirectory(), e);
+        }
+        if (!segments.isEmpty()) {
+            System.out.printf("Cleared %d history archive segments of a previous database%n", segments.size());
+        }
+    }
+
+    /**
+     * Writes rows as a new segment file of the given day; existing segments are never rewritten,
+     * so each call costs only the rows passed in. A day archived again after a failed delete may
+     * hold a row twice, reads skip the copy.
+     */
+    public synchronized void append(LocalDate day, List<History> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Path> segments = segmentsOf(day);
+        Path file = segmentOf(day, segments.isEmpty() ? 1 : sequenceOf(segments.get(segments.size() - 1)) + 1);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), TEMP_PREFIX, ".tmp");
+            try {
+                write(temp, rows);
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive history of " + day, e);
+        }
+    }
+
+    /**
+     * Archived rows created in {@code [from, to)} that match the filter, oldest first.
+     */
+    public List<History> find(LocalDateTime from, LocalDateTime to, Predicate<History> filter) {
+        LocalDate firstDay = from.toLocalDate();
+        LocalDate lastDay = to.minusNanos(1).toLocalDate();
+        List<History> result = new ArrayList<>();
+        for (LocalDate day : archivedDays()) {
+            if (day.isBefore(firstDay) || day.isAfter(lastDay)) {
+                continue;
+            }
+            Set<Long> seen = new HashSet<>();
+            for (Path segment : segmentsOf(day)) {
+                for (History history : read(segment)) {
+                    if (seen.add(history.getId()) && !history.getCreated().isBefore(from)
+                            && history.getCreated().isBefore(to) && filter.test(history)) {
+                        result.add(history);
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparing(History::getCreated).thenComparing(History::getId));
+        return result;
+    }
+
+    /**
+     * Sum of the amounts of the given day's archived rows that match the filter, one segment at a time.
+     */
+    public long sumAmount(LocalDate day, Predicate<History> filter) {
+        long sum = 0;
+        Set<Long> seen = new HashSet<>();
+        for (Path segment : segmentsOf(day)) {
+            for (History history : read(segment)) {
+                if (seen.add(history.getId()) && filter.test(history)) {
+                    sum += history.getAmount();
+                }
+            }
+        }
+        return sum;
+    }
+
+    public List<LocalDate> archivedDays() {
+        return listSegments()
+                .map(name -> parseDay(segmentMatcher(name).group(1)))
+                .filter(day -> day != null)
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private List<Path> segmentsOf(LocalDate day) {
+        String dayText = day.toString();
+        return listSegments()
+                .filter(name -> segmentMatcher(name).group(1).equals(dayText))
+                .map(name -> properties.getDirectory().resolve(name))
+                .sorted(Comparator.comparingLong(HistoryArchiveStore::sequenceOf))
+                .toList();
+    }
+
+    private Stream<String> listSegments() {
+        Path directory = properties.getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return Stream.empty();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> SEGMENT.matcher(name).matches())
+                    .toList()
+                    .stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list history archive " + directory, e);
+        }
+    }
+
+    private Path segmentOf(LocalDate day, long sequence) {
+        return properties.getDirectory().resolve(String.format("history-%s.%06d.col.gz", day, sequence));
+    }
+
+    private static long sequenceOf(Path segment) {
+        return Long.parseLong(segmentMatcher(segment.getFileName().toString()).group(2));
+    }
+
+    private static Matcher segmentMatcher(String name) {
+        Matcher matcher = SEGMENT.matcher(name);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a history archive segment: " + name);
+        }
+        return matcher;
+    }
+
+    private static LocalDate parseDay(String text) {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static void write(Path file, List<History> rows) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            writeVarLong(out, rows.size());
+
+            long previousId = 0;
+            for (History history : rows) {
+                writeVarLong(out, history.getId() - previousId);
+                previousId = history.getId();
+            }
+            long previousMicros = 0;
+            for (History history : rows) {
+                long micros = toMicros(history.getCreated());
+                writeVarLong(out, micros - previousMicros);
+                previousMicros = micros;
+            }
+            for (History history : rows) {
+                writeVarLong(out, history.getAmount());
+            }
+            writeDictionaryColumn(out, rows.stream().map(History::getStatus).toList());
+            writeDictionaryColumn(out, rows.stream().map(History::getCustomerFirstName).toList());
+        }
+    }
+
+    static List<History> read(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("Not a history archive: " + file);
+            }
+            int size = (int) readVarLong(in);
+            List<History> rows = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                rows.add(new History());
+            }
+
+            long id = 0;
+            for (History history : rows) {
+                id += readVarLong(in);
+                history.setId(id);
+            }
+            long micros = 0;
+            for (History history : rows) {
+                micros += readVarLong(in);
+                history.setCreated(fromMicros(micros));
+            }
+            for (History history : rows) {
+                history.setAmount((int) readVarLong(in));
+            }
+            List<String> statuses = readDictionaryColumn(in, size);
+            List<String> names = readDictionaryColumn(in, size);
+            for (int i = 0; i < size; i++) {
+                rows.get(i).setStatus(statuses.get(i));
+                rows.get(i).setCustomerFirstName(names.get(i));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read history archive " + file, e);
+        }
+    }
+
+    // Code 0 is null, code n is the n-th dictionary entry.
+    private static void writeDictionaryColumn(DataOutputStream out, List<String> values) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (String value : values) {
+            if (value != null) {
+                dictionary.putIfAbsent(value, dictionary.size() + 1);
+            }
+        }
+        writeVarLong(out, dictionary.size());
+        for (String entry : dictionary.keySet()) {
+            out.writeUTF(entry);
+        }
+        for (String value : values) {
+            writeVarLong(out, value == null ? 0 : dictionary.get(value));
+        }
+    }
+
+    private static List<String> readDictionaryColumn(DataInputStream in, int size) throws IOException {
+        int entries = (int) readVarLong(in);
+        Map<Integer, String> dictionary = new HashMap<>();
+        for (int i = 1; i <= entries; i++) {
+            dictionary.put(i, in.readUTF());
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(dictionary.get((int) readVarLong(in)));
+        }
+        return values;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigZag = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
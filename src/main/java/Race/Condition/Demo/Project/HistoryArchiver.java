@@ -0,0 +1,69 @@
+package Race.Condition.Demo.Project;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves whole days of {@link History} older than the retention window into the
+ * {@link HistoryArchiveStore}, so the history table and its indexes only hold recent rows.
+ * A day is moved in id-ordered chunks, each written to the archive before it is deleted in
+ * short batches; a crash in between leaves rows in both places, which {@link HistoryService}
+ * reads only once.
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "history.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HistoryArchiver {
+    private final HistoryRepository historyRepository;
+    private final HistoryArchiveStore historyArchiveStore;
+    private final HistoryArchiveProperties properties;
+
+    @Scheduled(cron = "${history.archive.cron:0 15 0 * * *}")
+    public void archiveExpiredDays() {
+        LocalDate cutoff = LocalDate.now().minusDays(properties.getRetentionDays());
+        Optional<LocalDateTime> oldest = historyRepository.findOldestCreated();
+        if (oldest.isEmpty()) {
+            return;
+        }
+        for (LocalDate day = oldest.get().toLocalDate(); day.isBefore(cutoff); day = day.plusDays(1)) {
+            try {
+                archiveDay(day);
+            } catch (Exception e) {
+                System.err.println("Failed to archive history of " + day + ": " + e);
+                return;
+            }
+        }
+    }
+
+    public void archiveDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        PageRequest chunk = PageRequest.of(0, properties.getChunkSize());
+        long afterId = Long.MIN_VALUE;
+        int archived = 0;
+        List<History> rows;
+        while (!(rows = historyRepository.findChunkCreatedBetween(from, to, afterId, chunk)).isEmpty()) {
+            historyArchiveStore.append(day, rows);
+            List<Long> ids = rows.stream().map(History::getId).toList();
+            for (int i = 0; i < ids.size(); i += properties.getDeleteBatchSize()) {
+                int end = Math.min(i + properties.getDeleteBatchSize(), ids.size());
+                historyRepository.deleteAllByIdInBatch(ids.subList(i, end));
+            }
+            afterId = ids.get(ids.size() - 1);
+            archived += ids.size();
+        }
+        if (archived > 0) {
+            System.out.printf("Archived %d history rows of %s%n", archived, day);
+        }
+    }
+}
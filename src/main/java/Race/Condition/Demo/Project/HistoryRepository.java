@@ -1,9 +1,38 @@
 package Race.Condition.Demo.Project;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface HistoryRepository extends JpaRepository<History, Long> {
 
+    @Query("select coalesce(sum(h.amount), 0) from History h where h.status = :status")
+    long sumAmountByStatus(@Param("status") String status);
+
+    @Query("select h.id from History h where h.status = :status and h.created >= :from and h.created < :to")
+    List<Long> findIdsByStatusCreatedBetween(@Param("status") String status, @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    @Query("select min(h.created) from History h")
+    Optional<LocalDateTime> findOldestCreated();
+
+    @Query("select h from History h where h.created >= :from and h.created < :to order by h.id")
+    List<History> findCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select h from History h where h.customerFirstName = :customerFirstName"
+            + " and h.created >= :from and h.created < :to order by h.id")
+    List<History> findByCustomerCreatedBetween(@Param("customerFirstName") String customerFirstName,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Query("select h from History h where h.created >= :from and h.created < :to and h.id > :afterId order by h.id")
+    List<History> findChunkCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                          @Param("afterId") long afterId, Pageable pageable);
 }
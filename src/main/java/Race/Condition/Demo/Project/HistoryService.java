@@ -2,13 +2,24 @@ package Race.Condition.Demo.Project;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
 @AllArgsConstructor
 @Service
 public class HistoryService {
     private final HistoryRepository historyRepository;
+    private final HistoryArchiveStore historyArchiveStore;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void saveMessageToHistory(CreditCardTransaction expenditure, String status) {
@@ -23,4 +34,58 @@ public class HistoryService {
             System.err.println("Failed to save message to history." + ex);
         }
     }
+
+    /**
+     * History created in {@code [from, to)}, from both the history table and the archive, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<History> findHistory(LocalDateTime from, LocalDateTime to) {
+        List<History> hot = historyRepository.findCreatedBetween(from, to);
+        return merge(historyArchiveStore.find(from, to, history -> true), hot);
+    }
+
+    @Transactional(readOnly = true)
+    public List<History> findHistoryByCustomer(String customerFirstName, LocalDateTime from, LocalDateTime to) {
+        List<History> hot = historyRepository.findByCustomerCreatedBetween(customerFirstName, from, to);
+        return merge(historyArchiveStore.find(from, to,
+                history -> Objects.equals(history.getCustomerFirstName(), customerFirstName)), hot);
+    }
+
+    /**
+     * Sum of the amounts with the given status, from both the history table and the archive.
+     * <p>
+     * Runs on one snapshot of the table: every table query sees it as it was at the first one.
+     * A row the archiver deletes before that is already in the archive and counted from there.
+     * A row deleted later is counted from the snapshot, and its archive copy is skipped by id.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long sumAmountByStatus(String status) {
+        long sum = historyRepository.sumAmountByStatus(status);
+        for (LocalDate day : historyArchiveStore.archivedDays()) {
+            Set<Long> inTable = new HashSet<>(historyRepository.findIdsByStatusCreatedBetween(
+                    status, day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+            sum += historyArchiveStore.sumAmount(day,
+                    history -> status.equals(history.getStatus()) && !inTable.contains(history.getId()));
+        }
+        return sum;
+    }
+
+    // The table is read before the archive. The archiver writes rows to the archive before deleting
+    // them, so a row moved between the two reads shows up in both and never in neither; the table copy wins.
+    // Rows are matched by id, as in sumAmountByStatus and the archive itself.
+    private static List<History> merge(List<History> archived, List<History> hot) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Set<Long> hotIds = new HashSet<>();
+        hot.forEach(history -> hotIds.add(history.getId()));
+        List<History> merged = new ArrayList<>(hot);
+        for (History history : archived) {
+            if (!hotIds.contains(history.getId())) {
+                merged.add(history);
+            }
+        }
+        merged.sort(Comparator.comparing(History::getCreated).thenComparing(History::getId));
+        return merged;
+    }
 }
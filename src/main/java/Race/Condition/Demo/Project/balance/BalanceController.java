@@ -0,0 +1,20 @@
+package Race.Condition.Demo.Project.balance;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class BalanceController {
+
+	private final BalanceView balanceView;
+
+	@GetMapping("/customers/{firstName}/balance")
+	public ResponseEntity<Integer> getBalance(@PathVariable String firstName) {
+		var balance = balanceView.getBalance(firstName);
+		return balance.isPresent() ? ResponseEntity.ok(balance.getAsInt()) : ResponseEntity.notFound().build();
+	}
+}
@@ -0,0 +1,119 @@
+package Race.Condition.Demo.Project.balance;
+
+import Race.Condition.Demo.Project.CustomerBalanceChangedEvent;
+import Race.Condition.Demo.Project.CustomerRepository;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read side of customer balances: an in-process cache kept current by
+ * {@link CustomerBalanceChangedEvent}s, so polling a balance does not read the row writers are updating.
+ * Only a miss goes to the database and only a miss adds an entry; events refresh entries already
+ * cached and are otherwise ignored. Events carry the customer's JPA version and anything older
+ * than the cached entry is dropped, which makes late or reordered events harmless.
+ */
+@Component
+@EnableConfigurationProperties(BalanceViewProperties.class)
+@RequiredArgsConstructor
+public class BalanceView {
+
+	// Entries looked at when making room, so eviction costs the same whatever the size of the view.
+	private static final int EVICTION_SCAN = 16;
+
+	private final CustomerRepository customerRepository;
+	private final BalanceViewProperties properties;
+
+	private final Map<String, Entry> balances = new ConcurrentHashMap<>();
+	// Entries in insertion order, the hand of the second-chance (CLOCK) eviction.
+	private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+
+	public OptionalInt getBalance(String customerFirstName) {
+		Entry entry = balances.get(customerFirstName);
+		if (entry != null) {
+			if (!entry.referenced) {
+				entry.referenced = true;
+			}
+			return OptionalInt.of(entry.balance);
+		}
+		return customerRepository.findByFirstName(customerFirstName)
+				.map(customer -> OptionalInt.of(load(customer.getFirstName(), customer.getBalance(), customer.getVersion())))
+				.orElseGet(OptionalInt::empty);
+	}
+
+	@EventListener
+	public void onBalanceChanged(CustomerBalanceChangedEvent event) {
+		balances.computeIfPresent(event.getCustomerFirstName(),
+				(key, cached) -> cached.apply(event.getBalance(), event.getVersion()) ? cached : null);
+	}
+
+	int size() {
+		return balances.size();
+	}
+
+	private int load(String customerFirstName, int balance, long version) {
+		Entry loaded = new Entry(customerFirstName, balance, version);
+		Entry current = balances.compute(customerFirstName,
+				(key, cached) -> cached == null ? loaded : cached.apply(balance, version) ? cached : null);
+		if (current == loaded) {
+			clock.offer(loaded);
+			if (balances.size() > properties.getMaxSize()) {
+				evictOne(loaded);
+			}
+		}
+		return current != null ? current.balance : balance;
+	}
+
+	// Entries read since the hand last passed get a second chance at the back of the queue,
+	// the first one that was not read is dropped. Gives up the second chance on the last look.
+	private void evictOne(Entry keep) {
+		for (int i = 0; i < EVICTION_SCAN; i++) {
+			Entry candidate = clock.poll();
+			if (candidate == null) {
+				return;
+			}
+			if (balances.get(candidate.customerFirstName) != candidate) {
+				continue; // dropped after a conflicting event, or already evicted
+			}
+			if (candidate == keep || candidate.referenced && i < EVICTION_SCAN - 1) {
+				candidate.referenced = false;
+				clock.offer(candidate);
+				continue;
+			}
+			if (balances.remove(candidate.customerFirstName, candidate)) {
+				return;
+			}
+		}
+	}
+
+	private static final class Entry {
+		final String customerFirstName;
+		volatile int balance;
+		volatile long version;
+		volatile boolean referenced;
+
+		Entry(String customerFirstName, int balance, long version) {
+			this.customerFirstName = customerFirstName;
+			this.balance = balance;
+			this.version = version;
+		}
+
+		// Called under the map's lock for this key. Returns false when a different balance claims the
+		// cached version: versions come from the database and only repeat if a write skipped the
+		// version check, so the entry is dropped and the next read reloads the committed row.
+		boolean apply(int balance, long version) {
+			if (version > this.version) {
+				this.balance = balance;
+				this.version = version;
+				return true;
+			}
+			return version != this.version || balance == this.balance;
+		}
+	}
+}
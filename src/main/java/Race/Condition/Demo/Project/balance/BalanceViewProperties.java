@@ -0,0 +1,12 @@
+package Race.Condition.Demo.Project.balance;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "balance.view")
+public class BalanceViewProperties {
+
+	/** Customers kept in memory; the least recently read ones are evicted past this size. */
+	private int maxSize = 10_000;
+}
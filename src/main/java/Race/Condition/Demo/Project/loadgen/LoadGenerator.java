@@ -0,0 +1,228 @@
+package Race.Condition.Demo.Project.loadgen;
+
+import Race.Condition.Demo.Project.CreditCardService;
+import Race.Condition.Demo.Project.CreditCardTransaction;
+import Race.Condition.Demo.Project.Customer;
+import Race.Condition.Demo.Project.CustomerRepository;
+import Race.Condition.Demo.Project.HistoryService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drives {@link CreditCardService} with a reproducible workload and reports latency percentiles.
+ * <p>
+ * Run with {@code --spring.profiles.active=loadgen}; see {@code application-loadgen.properties}.
+ * Latencies are measured from the intended send time, so a stalled service shows up in the
+ * percentiles instead of silently lowering the request rate (coordinated omission).
+ */
+@Component
+@Profile("loadgen")
+@EnableConfigurationProperties(LoadGeneratorProperties.class)
+@RequiredArgsConstructor
+public class LoadGenerator {
+
+	static final String CUSTOMER_PREFIX = "LOAD-";
+	static final String ORPHAN_PREFIX = "GHOST-";
+
+	private final LoadGeneratorProperties properties;
+	private final CreditCardService creditCardService;
+	private final CustomerRepository customerRepository;
+	private final HistoryService historyService;
+
+	private final Histogram histogram = new ConcurrentHistogram(3);
+	private final AtomicLong errors = new AtomicLong();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void run(ApplicationReadyEvent event) {
+		validate();
+		seedCustomers();
+		List<CreditCardTransaction> workload = buildWorkload();
+
+		System.out.printf("loadgen: mode=%s requests=%d warmup=%d rate=%.1f/s threads=%d keys=%s customers=%d seed=%d%n",
+				properties.getMode(), properties.getRequests(), properties.getWarmupRequests(),
+				properties.getRatePerSecond(), properties.getThreads(), properties.getKeyDistribution(),
+				properties.getCustomers(), properties.getSeed());
+
+		long start = System.nanoTime();
+		if (properties.getMode() == LoadGeneratorProperties.Mode.OPEN) {
+			runOpenLoop(workload);
+		} else {
+			runClosedLoop(workload);
+		}
+		long elapsed = System.nanoTime() - start;
+
+		report(workload, elapsed);
+		boolean consistent = checkBalanceInvariant();
+
+		if (properties.isExitOnFinish()) {
+			int exitCode = consistent ? 0 : 1;
+			System.exit(SpringApplication.exit(event.getApplicationContext(), () -> exitCode));
+		}
+	}
+
+	private void validate() {
+		if (properties.getCustomers() < 1 || properties.getRequests() < 1 || properties.getThreads() < 1) {
+			throw new IllegalStateException("loadgen.customers, loadgen.requests and loadgen.threads must be positive");
+		}
+		if (properties.getWarmupRequests() < 0 || properties.getWarmupRequests() >= properties.getRequests()) {
+			throw new IllegalStateException("loadgen.warmup-requests must be in [0, loadgen.requests)");
+		}
+		if (properties.getOrphanedRatio() < 0 || properties.getCorruptedRatio() < 0
+				|| properties.getOrphanedRatio() + properties.getCorruptedRatio() > 1) {
+			throw new IllegalStateException("loadgen.orphaned-ratio + loadgen.corrupted-ratio must be in [0, 1]");
+		}
+		if (properties.getMinAmount() > properties.getMaxAmount()) {
+			throw new IllegalStateException("loadgen.min-amount must not exceed loadgen.max-amount");
+		}
+		if (properties.getMode() == LoadGeneratorProperties.Mode.OPEN && properties.getRatePerSecond() <= 0) {
+			throw new IllegalStateException("loadgen.rate-per-second must be positive in OPEN mode");
+		}
+	}
+
+	private void seedCustomers() {
+		List<Customer> customers = new ArrayList<>(properties.getCustomers());
+		for (int i = 0; i < properties.getCustomers(); i++) {
+			Customer customer = new Customer();
+			customer.setId(properties.getFirstCustomerId() + i);
+			customer.setFirstName(CUSTOMER_PREFIX + i);
+			customer.setLastName("LOADGEN");
+			customers.add(customer);
+		}
+		customerRepository.saveAll(customers);
+	}
+
+	List<CreditCardTransaction> buildWorkload() {
+		SplittableRandom random = new SplittableRandom(properties.getSeed());
+		ZipfianGenerator zipfian = properties.getKeyDistribution() == LoadGeneratorProperties.KeyDistribution.ZIPFIAN
+				? new ZipfianGenerator(properties.getCustomers(), properties.getZipfianTheta())
+				: null;
+
+		List<CreditCardTransaction> workload = new ArrayList<>(properties.getRequests());
+		for (int i = 0; i < properties.getRequests(); i++) {
+			long key = zipfian != null ? zipfian.next(random) : random.nextInt(properties.getCustomers());
+			double kind = random.nextDouble();
+			String firstName;
+			if (kind < properties.getCorruptedRatio()) {
+				firstName = null;
+			} else if (kind < properties.getCorruptedRatio() + properties.getOrphanedRatio()) {
+				firstName = ORPHAN_PREFIX + key;
+			} else {
+				firstName = CUSTOMER_PREFIX + key;
+			}
+			workload.add(CreditCardTransaction.builder()
+					.id((long) i)
+					.amount(random.nextInt(properties.getMinAmount(), properties.getMaxAmount() + 1))
+					.productName("loadgen")
+					.customerFirstName(firstName)
+					.build());
+		}
+		return workload;
+	}
+
+	@SneakyThrows
+	private void runOpenLoop(List<CreditCardTransaction> workload) {
+		ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+		long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / properties.getRatePerSecond());
+		long start = System.nanoTime();
+		for (int i = 0; i < workload.size(); i++) {
+			final int index = i;
+			final long intendedStart = start + i * intervalNanos;
+			long wait;
+			while ((wait = intendedStart - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			executor.execute(() -> {
+				send(workload.get(index));
+				if (index >= properties.getWarmupRequests()) {
+					histogram.recordValue(System.nanoTime() - intendedStart);
+				}
+			});
+		}
+		executor.shutdown();
+		executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	@SneakyThrows
+	private void runClosedLoop(List<CreditCardTransaction> workload) {
+		long expectedIntervalNanos = properties.getRatePerSecond() > 0
+				? (long) (properties.getThreads() * TimeUnit.SECONDS.toNanos(1) / properties.getRatePerSecond())
+				: 0;
+		AtomicInteger next = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < properties.getThreads(); t++) {
+			Thread thread = new Thread(() -> {
+				int index;
+				while ((index = next.getAndIncrement()) < workload.size()) {
+					long start = System.nanoTime();
+					send(workload.get(index));
+					if (index >= properties.getWarmupRequests()) {
+						histogram.recordValueWithExpectedInterval(System.nanoTime() - start, expectedIntervalNanos);
+					}
+				}
+			}, "loadgen-" + t);
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+
+	private void send(CreditCardTransaction transaction) {
+		try {
+			creditCardService.sendTransaction(transaction);
+		} catch (Exception e) {
+			errors.incrementAndGet();
+		}
+	}
+
+	private void report(List<CreditCardTransaction> workload, long elapsedNanos) {
+		long corrupted = workload.stream().filter(t -> t.getCustomerFirstName() == null).count();
+		long orphaned = workload.stream()
+				.filter(t -> t.getCustomerFirstName() != null && t.getCustomerFirstName().startsWith(ORPHAN_PREFIX))
+				.count();
+		double seconds = elapsedNanos / 1e9;
+
+		System.out.printf("loadgen: sent=%d valid=%d orphaned=%d corrupted=%d errors=%d in %.2fs (%.1f/s)%n",
+				workload.size(), workload.size() - orphaned - corrupted, orphaned, corrupted, errors.get(),
+				seconds, workload.size() / seconds);
+		System.out.printf("loadgen: latency ms p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f (n=%d)%n",
+				millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+				millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+				millis(histogram.getMaxValue()), histogram.getTotalCount());
+		histogram.outputPercentileDistribution(System.out, 1_000_000.0);
+	}
+
+	private boolean checkBalanceInvariant() {
+		long balances = customerRepository.sumBalances();
+		long received = historyService.sumAmountByStatus("RECEIVED");
+		if (balances == received) {
+			System.out.printf("loadgen: invariant OK, sum(balance)=%d sum(RECEIVED)=%d%n", balances, received);
+			return true;
+		}
+		System.err.printf("loadgen: invariant VIOLATED, sum(balance)=%d sum(RECEIVED)=%d lost=%d%n",
+				balances, received, received - balances);
+		return false;
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
@@ -0,0 +1,61 @@
+package Race.Condition.Demo.Project.loadgen;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "loadgen")
+public class LoadGeneratorProperties {
+
+	public enum Mode {
+		/** Requests are issued on a fixed schedule, independent of how fast earlier ones complete. */
+		OPEN,
+		/** Each worker issues its next request only after the previous one has completed. */
+		CLOSED
+	}
+
+	public enum KeyDistribution {
+		UNIFORM,
+		ZIPFIAN
+	}
+
+	private Mode mode = Mode.OPEN;
+
+	/** Seed for customer keys, transaction kinds and amounts, so runs can be repeated exactly. */
+	private long seed = 42L;
+
+	/** Number of customers seeded before the run. */
+	private int customers = 1000;
+
+	/** First customer id used for the seeded population. */
+	private long firstCustomerId = 10_000L;
+
+	private KeyDistribution keyDistribution = KeyDistribution.ZIPFIAN;
+
+	/** Zipfian skew, must be in (0, 1). 0.99 is the usual "hot key" setting. */
+	private double zipfianTheta = 0.99;
+
+	/** Total number of transactions to send. */
+	private int requests = 10_000;
+
+	/** Requests skipped by the report while the JVM and connection pool warm up. */
+	private int warmupRequests = 1_000;
+
+	/** Open loop: target arrival rate. Closed loop: expected rate used for coordinated omission correction, 0 disables it. */
+	private double ratePerSecond = 500;
+
+	private int threads = 16;
+
+	/** Share of transactions addressed to a customer that does not exist. */
+	private double orphanedRatio = 0.05;
+
+	/** Share of transactions without a customer name. */
+	private double corruptedRatio = 0.01;
+
+	private int minAmount = 1;
+
+	private int maxAmount = 100;
+
+	/** Close the application with a non-zero exit code if the balance invariant is violated. */
+	private boolean exitOnFinish = true;
+}
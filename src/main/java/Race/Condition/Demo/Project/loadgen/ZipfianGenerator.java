@@ -0,0 +1,51 @@
+package Race.Condition.Demo.Project.loadgen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zipfian distributed ranks in {@code [0, items)}, rank 0 being the most popular.
+ * Uses the rejection-free method from Gray et al., "Quickly Generating Billion-Record Synthetic Databases".
+ */
+public class ZipfianGenerator {
+
+	private final long items;
+	private final double zetaN;
+	private final double alpha;
+	private final double eta;
+	private final double halfPowTheta;
+
+	public ZipfianGenerator(long items, double theta) {
+		if (items < 1) {
+			throw new IllegalArgumentException("items must be positive: " + items);
+		}
+		if (theta <= 0 || theta >= 1) {
+			throw new IllegalArgumentException("theta must be in (0, 1): " + theta);
+		}
+		this.items = items;
+		this.zetaN = zeta(items, theta);
+		this.alpha = 1.0 / (1.0 - theta);
+		this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+		this.halfPowTheta = Math.pow(0.5, theta);
+	}
+
+	public long next(SplittableRandom random) {
+		double u = random.nextDouble();
+		double uz = u * zetaN;
+		if (uz < 1.0) {
+			return 0;
+		}
+		if (uz < 1.0 + halfPowTheta) {
+			return Math.min(1, items - 1);
+		}
+		long rank = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+		return Math.min(rank, items - 1);
+	}
+
+	private static double zeta(long n, double theta) {
+		double sum = 0;
+		for (long i = 1; i <= n; i++) {
+			sum += 1 / Math.pow(i, theta);
+		}
+		return sum;
+	}
+}
@@ -18,16 +18,16 @@ public class B {
 	public void testBSave() {
 		a.testA_findAll_forEach_println();
 		customerRepository.save(
-				new Customer(100L, "Jack1", "Bauer1", 0, LocalDateTime.now(), LocalDateTime.now()));
+				new Customer(100L, "Jack1", "Bauer1", 0, null, LocalDateTime.now(), LocalDateTime.now()));
 		customerRepository.save(
-				new Customer(200L, "Jack2", "Bauer2", 0, LocalDateTime.now(), LocalDateTime.now()));
+				new Customer(200L, "Jack2", "Bauer2", 0, null, LocalDateTime.now(), LocalDateTime.now()));
 		a.testA_findAll_forEach_println();
 		customerRepository.save(
-				new Customer(300L, "Jack3", "Bauer3", 0, LocalDateTime.now(), LocalDateTime.now()));
+				new Customer(300L, "Jack3", "Bauer3", 0, null, LocalDateTime.now(), LocalDateTime.now()));
 		a.testA_findAll_forEach_println();
 		customerRepository.save(
-				new Customer(400L, "Jack4", "Bauer4", 0, LocalDateTime.now(), LocalDateTime.now()));
+				new Customer(400L, "Jack4", "Bauer4", 0, null, LocalDateTime.now(), LocalDateTime.now()));
 		customerRepository.save(
-				new Customer(500L, "Jack5", "Bauer5", 0, LocalDateTime.now(), LocalDateTime.now()));
+				new Customer(500L, "Jack5", "Bauer5", 0, null, LocalDateTime.now(), LocalDateTime.now()));
 	}
 }
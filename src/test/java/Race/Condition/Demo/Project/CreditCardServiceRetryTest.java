@@ -0,0 +1,86 @@
+package Race.Condition.Demo.Project;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The retry and recovery wiring of {@link CreditCardService}, through the Spring Retry proxy.
+ */
+@SpringJUnitConfig
+@TestPropertySource(properties = "credit-card.retry.max-attempts=3")
+class CreditCardServiceRetryTest {
+
+    @Configuration
+    @EnableRetry
+    @Import(CreditCardService.class)
+    static class Config {
+    }
+
+    @MockitoBean
+    private CustomerRepository customerRepository;
+
+    @MockitoBean
+    private HistoryRepository historyRepository;
+
+    @MockitoBean
+    private HistoryService historyService;
+
+    @Autowired
+    private CreditCardService creditCardService;
+
+    @Test
+    void exhaustedRetriesRecordAFailedCreditAndReachTheCaller() {
+        CreditCardTransaction transaction = transaction();
+        when(customerRepository.findByFirstName("İSA")).thenReturn(Optional.of(customer()));
+        when(customerRepository.save(any(Customer.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, 1L));
+
+        assertThatThrownBy(() -> creditCardService.sendTransaction(transaction))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        verify(customerRepository, times(3)).save(any(Customer.class));
+        verify(historyService).saveMessageToHistory(transaction, "FAILED");
+        verify(historyService, never()).saveMessageToHistory(any(), eq("RECEIVED"));
+    }
+
+    @Test
+    void otherFailuresAreNotRetriedAndReachTheCaller() {
+        CreditCardTransaction transaction = transaction();
+        when(customerRepository.findByFirstName("İSA")).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> creditCardService.sendTransaction(transaction))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        verify(customerRepository, times(1)).findByFirstName("İSA");
+        verify(historyService, never()).saveMessageToHistory(any(), eq("FAILED"));
+    }
+
+    private static CreditCardTransaction transaction() {
+        return CreditCardTransaction.builder().amount(1).productName("debit").customerFirstName("İSA").build();
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setFirstName("İSA");
+        customer.setVersion(0L);
+        return customer;
+    }
+}
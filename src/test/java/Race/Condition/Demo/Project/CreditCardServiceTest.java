@@ -0,0 +1,84 @@
+package Race.Condition.Demo.Project;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CreditCardServiceTest {
+
+    private static final String NAME = "İSA";
+
+    private CustomerRepository customerRepository;
+    private HistoryService historyService;
+    private ApplicationEventPublisher eventPublisher;
+    private CreditCardService creditCardService;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        historyService = mock(HistoryService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        creditCardService = new CreditCardService(customerRepository, mock(HistoryRepository.class),
+                historyService, eventPublisher);
+    }
+
+    @Test
+    void publishesTheBalanceAndVersionOfTheSavedCustomer() {
+        CreditCardTransaction transaction = transaction(5);
+        when(customerRepository.findByFirstName(NAME)).thenReturn(Optional.of(customer(10, 3L)));
+        when(customerRepository.save(any(Customer.class))).thenReturn(customer(15, 4L));
+
+        creditCardService.sendTransaction(transaction);
+
+        verify(eventPublisher).publishEvent(new CustomerBalanceChangedEvent(NAME, 15, 4L));
+        verify(historyService).saveMessageToHistory(transaction, "RECEIVED");
+    }
+
+    @Test
+    void lostOptimisticLockIsNeitherRecordedNorPublished() {
+        CreditCardTransaction transaction = transaction(5);
+        when(customerRepository.findByFirstName(NAME)).thenReturn(Optional.of(customer(10, 3L)));
+        when(customerRepository.save(any(Customer.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, 1L));
+
+        assertThatThrownBy(() -> creditCardService.sendTransaction(transaction))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        verify(historyService, never()).saveMessageToHistory(any(), eq("RECEIVED"));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void recoverRecordsTheFailedCreditAndRethrows() {
+        CreditCardTransaction transaction = transaction(5);
+        ObjectOptimisticLockingFailureException failure = new ObjectOptimisticLockingFailureException(Customer.class, 1L);
+
+        assertThatThrownBy(() -> creditCardService.sendTransactionRecover(failure, transaction)).isSameAs(failure);
+
+        verify(historyService).saveMessageToHistory(transaction, "FAILED");
+    }
+
+    private static CreditCardTransaction transaction(int amount) {
+        return CreditCardTransaction.builder().amount(amount).productName("debit").customerFirstName(NAME).build();
+    }
+
+    private static Customer customer(int balance, Long version) {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setFirstName(NAME);
+        customer.setBalance(balance);
+        customer.setVersion(version);
+        return customer;
+    }
+}
@@ -0,0 +1,144 @@
+package Race.Condition.Demo.Project;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link HistoryService} and {@link HistoryArchiver} against a real history table and an archive in a temp directory.
+ */
+@DataJpaTest
+class HistoryArchiveJpaTest {
+
+    private static final LocalDate OLD_DAY = LocalDate.of(2026, 1, 5);
+
+    @Autowired
+    private HistoryRepository historyRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    Path directory;
+
+    private HistoryArchiveStore historyArchiveStore;
+    private HistoryService historyService;
+    private HistoryArchiver historyArchiver;
+
+    @BeforeEach
+    void setUp() {
+        HistoryArchiveProperties properties = new HistoryArchiveProperties();
+        properties.setDirectory(directory);
+        properties.setChunkSize(2);
+        properties.setDeleteBatchSize(1);
+        historyArchiveStore = new HistoryArchiveStore(properties);
+        historyService = new HistoryService(historyRepository, historyArchiveStore);
+        historyArchiver = new HistoryArchiver(historyRepository, historyArchiveStore, properties);
+    }
+
+    @Test
+    void findHistoryReturnsARowInBothPlacesOnceOldestFirst() {
+        History inBoth = insert("İSA", 10, "RECEIVED", OLD_DAY.atTime(8, 0));
+        History tableOnly = insert("JACK", 20, "RECEIVED", OLD_DAY.atTime(9, 0));
+        History archiveOnly = new History(1_000_000L, "İSA", 30, "RECEIVED", OLD_DAY.atTime(7, 0));
+        historyArchiveStore.append(OLD_DAY, List.of(inBoth, archiveOnly));
+
+        assertThat(historyService.findHistory(OLD_DAY.atStartOfDay(), OLD_DAY.plusDays(1).atStartOfDay()))
+                .containsExactly(archiveOnly, inBoth, tableOnly);
+        assertThat(historyService.findHistoryByCustomer("İSA", OLD_DAY.atStartOfDay(), OLD_DAY.plusDays(1).atStartOfDay()))
+                .containsExactly(archiveOnly, inBoth);
+    }
+
+    @Test
+    void sumAmountByStatusCountsAPartlyArchivedDayOnce() {
+        History inBoth = insert("İSA", 10, "RECEIVED", OLD_DAY.atTime(8, 0));
+        History alsoInBoth = insert("İSA", 20, "RECEIVED", OLD_DAY.atTime(9, 0));
+        insert("İSA", 30, "RECEIVED", OLD_DAY.atTime(10, 0));
+        insert("GHOST", 60, "ORPHANED", OLD_DAY.atTime(11, 0));
+        historyArchiveStore.append(OLD_DAY, List.of(inBoth, alsoInBoth,
+                new History(1_000_000L, "İSA", 40, "RECEIVED", OLD_DAY.atTime(7, 0)),
+                new History(1_000_001L, "GHOST", 50, "ORPHANED", OLD_DAY.atTime(7, 30))));
+
+        assertThat(historyService.sumAmountByStatus("RECEIVED")).isEqualTo(100);
+        assertThat(historyService.sumAmountByStatus("ORPHANED")).isEqualTo(110);
+    }
+
+    @Test
+    void archiveDayMovesOnlyThatDayInChunks() throws IOException {
+        List<History> oldRows = List.of(
+                insert("İSA", 1, "RECEIVED", OLD_DAY.atTime(1, 0)),
+                insert("İSA", 2, "RECEIVED", OLD_DAY.atTime(2, 0)),
+                insert("JACK", 3, "ORPHANED", OLD_DAY.atTime(3, 0)),
+                insert(null, 4, "CORRUPTED", OLD_DAY.atTime(4, 0)),
+                insert("İSA", 5, "RECEIVED", OLD_DAY.atTime(5, 0)));
+        History nextDay = insert("İSA", 6, "RECEIVED", OLD_DAY.plusDays(1).atTime(1, 0));
+
+        historyArchiver.archiveDay(OLD_DAY);
+
+        assertThat(historyRepository.findAll()).containsExactly(nextDay);
+        assertThat(historyArchiveStore.find(OLD_DAY.atStartOfDay(), OLD_DAY.plusDays(1).atStartOfDay(), history -> true))
+                .containsExactlyElementsOf(oldRows);
+        try (Stream<Path> segments = Files.list(directory)) {
+            assertThat(segments).hasSize(3);
+        }
+        assertThat(historyService.sumAmountByStatus("RECEIVED")).isEqualTo(1 + 2 + 5 + 6);
+    }
+
+    @Test
+    void archiveDayAgainAfterACrashBetweenAppendAndDelete() {
+        History first = insert("İSA", 1, "RECEIVED", OLD_DAY.atTime(1, 0));
+        History second = insert("İSA", 2, "RECEIVED", OLD_DAY.atTime(2, 0));
+        History third = insert("İSA", 3, "RECEIVED", OLD_DAY.atTime(3, 0));
+        // the first chunk reached the archive, the delete never ran
+        historyArchiveStore.append(OLD_DAY, List.of(first, second));
+
+        historyArchiver.archiveDay(OLD_DAY);
+
+        assertThat(historyRepository.findAll()).isEmpty();
+        assertThat(historyService.findHistory(OLD_DAY.atStartOfDay(), OLD_DAY.plusDays(1).atStartOfDay()))
+                .containsExactly(first, second, third);
+        assertThat(historyService.sumAmountByStatus("RECEIVED")).isEqualTo(6);
+    }
+
+    @Test
+    void archiveExpiredDaysKeepsDaysInsideTheRetentionWindow() {
+        LocalDate today = LocalDate.now();
+        History expired = insert("İSA", 1, "RECEIVED", today.minusDays(40).atTime(12, 0));
+        History recent = insert("İSA", 2, "RECEIVED", today.minusDays(1).atTime(12, 0));
+
+        historyArchiver.archiveExpiredDays();
+
+        assertThat(historyRepository.findAll()).containsExactly(recent);
+        assertThat(historyArchiveStore.archivedDays()).containsExactly(expired.getCreated().toLocalDate());
+    }
+
+    // created is filled in by @CreationTimestamp on insert, so backdated rows are moved afterwards.
+    private History insert(String customerFirstName, int amount, String status, LocalDateTime created) {
+        History history = historyRepository.saveAndFlush(History.builder()
+                .customerFirstName(customerFirstName)
+                .amount(amount)
+                .status(status)
+                .build());
+        entityManager.getEntityManager()
+                .createQuery("update History h set h.created = :created where h.id = :id")
+                .setParameter("created", created)
+                .setParameter("id", history.getId())
+                .executeUpdate();
+        entityManager.clear();
+        history.setCreated(created);
+        return history;
+    }
+}
@@ -0,0 +1,131 @@
+package Race.Condition.Demo.Project;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryArchiveStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 5);
+
+    @TempDir
+    Path directory;
+
+    private HistoryArchiveStore store;
+
+    @BeforeEach
+    void setUp() {
+        HistoryArchiveProperties properties = new HistoryArchiveProperties();
+        properties.setDirectory(directory);
+        store = new HistoryArchiveStore(properties);
+    }
+
+    @Test
+    void writeAndReadKeepEveryColumn() throws IOException {
+        List<History> rows = List.of(
+                history(100L, "İSA", 10, "RECEIVED", DAY.atTime(12, 0, 0, 123_456_000)),
+                // id and time both go backwards
+                history(5L, null, -3, null, DAY.atTime(9, 30)),
+                history(Long.MAX_VALUE / 2, "İSA", Integer.MIN_VALUE, "ORPHANED", DAY.atTime(23, 59, 59, 999_999_000)),
+                history(6L, "JACK", Integer.MAX_VALUE, "RECEIVED", LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1_000)));
+        Path file = directory.resolve("rows.col.gz");
+
+        HistoryArchiveStore.write(file, rows);
+
+        assertThat(HistoryArchiveStore.read(file)).containsExactlyElementsOf(rows);
+    }
+
+    @Test
+    void writeAndReadNoRows() throws IOException {
+        Path file = directory.resolve("empty.col.gz");
+
+        HistoryArchiveStore.write(file, List.of());
+
+        assertThat(HistoryArchiveStore.read(file)).isEmpty();
+    }
+
+    @Test
+    void appendingNoRowsLeavesTheDayUnarchived() {
+        store.append(DAY, List.of());
+
+        assertThat(store.archivedDays()).isEmpty();
+        assertThat(store.find(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(), history -> true)).isEmpty();
+    }
+
+    @Test
+    void appendToAnArchivedDayKeepsEarlierRows() {
+        History first = history(1L, "İSA", 10, "RECEIVED", DAY.atTime(8, 0));
+        History second = history(2L, null, 20, "CORRUPTED", DAY.atTime(9, 0));
+        History third = history(3L, "JACK", 30, "ORPHANED", DAY.atTime(10, 0));
+
+        store.append(DAY, List.of(first, second));
+        store.append(DAY, List.of(third));
+
+        assertThat(store.archivedDays()).containsExactly(DAY);
+        assertThat(store.find(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(), history -> true))
+                .containsExactly(first, second, third);
+    }
+
+    @Test
+    void rowArchivedTwiceIsReadOnce() {
+        History row = history(1L, "İSA", 10, "RECEIVED", DAY.atTime(8, 0));
+
+        store.append(DAY, List.of(row));
+        store.append(DAY, List.of(row));
+
+        assertThat(store.find(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(), history -> true))
+                .containsExactly(row);
+        assertThat(store.sumAmount(DAY, history -> "RECEIVED".equals(history.getStatus()))).isEqualTo(10);
+    }
+
+    @Test
+    void findAppliesTimeRangeAndFilter() {
+        History morning = history(1L, "İSA", 10, "RECEIVED", DAY.atTime(8, 0));
+        History noon = history(2L, "İSA", 20, "RECEIVED", DAY.atTime(12, 0));
+        History other = history(3L, "JACK", 30, "RECEIVED", DAY.atTime(12, 30));
+        History nextDay = history(4L, "İSA", 40, "RECEIVED", DAY.plusDays(1).atTime(8, 0));
+        store.append(DAY, List.of(morning, noon, other));
+        store.append(DAY.plusDays(1), List.of(nextDay));
+
+        assertThat(store.find(DAY.atTime(10, 0), DAY.plusDays(2).atStartOfDay(),
+                history -> "İSA".equals(history.getCustomerFirstName())))
+                .containsExactly(noon, nextDay);
+        assertThat(store.archivedDays()).containsExactly(DAY, DAY.plusDays(1));
+    }
+
+    @Test
+    void clearOnStartupDeletesOnlySegments() throws IOException {
+        store.append(DAY, List.of(history(1L, "İSA", 10, "RECEIVED", DAY.atTime(8, 0))));
+        Path unrelated = Files.writeString(directory.resolve("notes.txt"), "keep");
+        HistoryArchiveProperties properties = new HistoryArchiveProperties();
+        properties.setDirectory(directory);
+        properties.setClearOnStartup(true);
+
+        new HistoryArchiveStore(properties).clearIfConfigured();
+
+        assertThat(store.archivedDays()).isEmpty();
+        assertThat(unrelated).exists();
+    }
+
+    @Test
+    void segmentsAreKeptByDefault() {
+        store.append(DAY, List.of(history(1L, "İSA", 10, "RECEIVED", DAY.atTime(8, 0))));
+
+        store.clearIfConfigured();
+
+        assertThat(store.archivedDays()).containsExactly(DAY);
+    }
+
+    private static History history(Long id, String customerFirstName, int amount, String status, LocalDateTime created) {
+        return new History(id, customerFirstName, amount, status, created);
+    }
+}
@@ -0,0 +1,79 @@
+package Race.Condition.Demo.Project;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HistoryArchiverTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 5);
+    private static final LocalDateTime FROM = DAY.atStartOfDay();
+    private static final LocalDateTime TO = DAY.plusDays(1).atStartOfDay();
+
+    private HistoryRepository historyRepository;
+    private HistoryArchiveStore historyArchiveStore;
+    private HistoryArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        historyRepository = mock(HistoryRepository.class);
+        historyArchiveStore = mock(HistoryArchiveStore.class);
+        HistoryArchiveProperties properties = new HistoryArchiveProperties();
+        properties.setChunkSize(3);
+        properties.setDeleteBatchSize(2);
+        archiver = new HistoryArchiver(historyRepository, historyArchiveStore, properties);
+    }
+
+    @Test
+    void archivesChunksAfterTheLastIdAndDeletesInBatches() {
+        List<History> first = List.of(history(1L), history(2L), history(3L));
+        List<History> second = List.of(history(7L));
+        PageRequest chunk = PageRequest.of(0, 3);
+        when(historyRepository.findChunkCreatedBetween(FROM, TO, Long.MIN_VALUE, chunk)).thenReturn(first);
+        when(historyRepository.findChunkCreatedBetween(FROM, TO, 3L, chunk)).thenReturn(second);
+        when(historyRepository.findChunkCreatedBetween(FROM, TO, 7L, chunk)).thenReturn(List.of());
+
+        archiver.archiveDay(DAY);
+
+        InOrder order = inOrder(historyArchiveStore, historyRepository);
+        order.verify(historyArchiveStore).append(DAY, first);
+        order.verify(historyRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        order.verify(historyRepository).deleteAllByIdInBatch(List.of(3L));
+        order.verify(historyArchiveStore).append(DAY, second);
+        order.verify(historyRepository).deleteAllByIdInBatch(List.of(7L));
+        order.verify(historyRepository).findChunkCreatedBetween(FROM, TO, 7L, chunk);
+    }
+
+    @Test
+    void nothingIsDeletedWhenTheArchiveWriteFails() {
+        List<History> rows = List.of(history(1L));
+        when(historyRepository.findChunkCreatedBetween(eq(FROM), eq(TO), anyLong(), any())).thenReturn(rows);
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(historyArchiveStore).append(DAY, rows);
+
+        assertThatThrownBy(() -> archiver.archiveDay(DAY)).isInstanceOf(UncheckedIOException.class);
+        verify(historyRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    private static History history(Long id) {
+        return new History(id, "İSA", 1, "RECEIVED", DAY.atTime(8, 0));
+    }
+}
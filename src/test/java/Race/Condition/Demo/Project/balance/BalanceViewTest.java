@@ -0,0 +1,154 @@
+package Race.Condition.Demo.Project.balance;
+
+import Race.Condition.Demo.Project.Customer;
+import Race.Condition.Demo.Project.CustomerBalanceChangedEvent;
+import Race.Condition.Demo.Project.CustomerRepository;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BalanceViewTest {
+
+	private static final String NAME = "İSA";
+
+	private CustomerRepository customerRepository;
+	private BalanceViewProperties properties;
+	private BalanceView balanceView;
+
+	@BeforeEach
+	void setUp() {
+		customerRepository = mock(CustomerRepository.class);
+		properties = new BalanceViewProperties();
+		balanceView = new BalanceView(customerRepository, properties);
+	}
+
+	@Test
+	void hitDoesNotReadTheDatabase() {
+		when(customerRepository.findByFirstName(NAME)).thenReturn(Optional.of(customer(NAME, 10, 1)));
+
+		assertThat(balanceView.getBalance(NAME)).hasValue(10);
+		balanceView.onBalanceChanged(new CustomerBalanceChangedEvent(NAME, 20, 2));
+
+		assertThat(balanceView.getBalance(NAME)).hasValue(20);
+		verify(customerRepository, times(1)).findByFirstName(NAME);
+	}
+
+	@Test
+	void eventForACustomerNobodyReadsIsNotCached() {
+		when(customerRepository.findByFirstName(NAME)).thenReturn(Optional.of(customer(NAME, 7, 3)));
+
+		balanceView.onBalanceChanged(new CustomerBalanceChangedEvent(NAME, 20, 2));
+
+		assertThat(balanceView.size()).isZero();
+		assertThat(balanceView.getBalance(NAME)).hasValue(7);
+	}
+
+	@Test
+	void olderEventIsIgnored() {
+		when(customerRepository.findByFirstName(NAME)).thenReturn(Optional.of(customer(NAME, 20, 2)));
+		balanceView.getBalance(NAME);
+
+		balanceView.onBalanceChanged(new CustomerBalanceChangedEvent(NAME, 10, 1));
+
+		assertThat(balanceView.getBalance(NAME)).hasValue(20);
+	}
+
+	@Test
+	void conflictingEventWithTheSameVersionReloadsFromTheDatabase() {
+		when(customerRepository.findByFirstName(NAME))
+				.thenReturn(Optional.of(customer(NAME, 11, 2)))
+				.thenReturn(Optional.of(customer(NAME, 15, 2)));
+		assertThat(balanceView.getBalance(NAME)).hasValue(11);
+
+		balanceView.onBalanceChanged(new CustomerBalanceChangedEvent(NAME, 15, 2));
+
+		assertThat(balanceView.getBalance(NAME)).hasValue(15);
+		assertThat(balanceView.getBalance(NAME)).hasValue(15);
+		verify(customerRepository, times(2)).findByFirstName(NAME);
+	}
+
+	@Test
+	void unknownCustomerIsEmpty() {
+		when(customerRepository.findByFirstName(NAME)).thenReturn(Optional.empty());
+
+		assertThat(balanceView.getBalance(NAME)).isEmpty();
+		assertThat(balanceView.size()).isZero();
+	}
+
+	@Test
+	void sizeNeverExceedsMaxSize() {
+		properties.setMaxSize(5);
+		everyCustomerExists();
+
+		for (int i = 0; i < 50; i++) {
+			balanceView.getBalance("C" + i);
+			assertThat(balanceView.size()).isLessThanOrEqualTo(5);
+		}
+	}
+
+	@Test
+	void justInsertedEntryIsNeverEvicted() {
+		properties.setMaxSize(1);
+		everyCustomerExists();
+
+		balanceView.getBalance("A");
+		balanceView.getBalance("B");
+		balanceView.getBalance("B");
+
+		verify(customerRepository, times(1)).findByFirstName("B");
+		assertThat(balanceView.size()).isEqualTo(1);
+	}
+
+	@Test
+	void recentlyReadEntrySurvivesAColdOne() {
+		properties.setMaxSize(2);
+		everyCustomerExists();
+		balanceView.getBalance("A");
+		balanceView.getBalance("A");
+		balanceView.getBalance("B");
+
+		balanceView.getBalance("C");
+
+		balanceView.getBalance("A");
+		balanceView.getBalance("B");
+		verify(customerRepository, times(1)).findByFirstName("A");
+		verify(customerRepository, times(2)).findByFirstName("B");
+	}
+
+	@Test
+	void writesDoNotCountAsReads() {
+		properties.setMaxSize(2);
+		everyCustomerExists();
+		balanceView.getBalance("A");
+		balanceView.getBalance("A");
+		balanceView.getBalance("B");
+		for (int version = 2; version < 10; version++) {
+			balanceView.onBalanceChanged(new CustomerBalanceChangedEvent("B", version, version));
+		}
+
+		balanceView.getBalance("C");
+
+		balanceView.getBalance("A");
+		verify(customerRepository, times(1)).findByFirstName("A");
+	}
+
+	private void everyCustomerExists() {
+		when(customerRepository.findByFirstName(anyString()))
+				.thenAnswer(invocation -> Optional.of(customer(invocation.getArgument(0), 1, 1)));
+	}
+
+	private static Customer customer(String firstName, int balance, long version) {
+		Customer customer = new Customer();
+		customer.setFirstName(firstName);
+		customer.setBalance(balance);
+		customer.setVersion(version);
+		return customer;
+	}
+}
@@ -0,0 +1,64 @@
+package Race.Condition.Demo.Project.loadgen;
+
+import Race.Condition.Demo.Project.CreditCardTransaction;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadGeneratorTest {
+
+	@Test
+	void sameSeedBuildsTheSameWorkload() {
+		assertThat(workload(7L, LoadGeneratorProperties.KeyDistribution.ZIPFIAN))
+				.isEqualTo(workload(7L, LoadGeneratorProperties.KeyDistribution.ZIPFIAN));
+		assertThat(workload(7L, LoadGeneratorProperties.KeyDistribution.UNIFORM))
+				.isEqualTo(workload(7L, LoadGeneratorProperties.KeyDistribution.UNIFORM));
+	}
+
+	@Test
+	void differentSeedBuildsADifferentWorkload() {
+		assertThat(workload(7L, LoadGeneratorProperties.KeyDistribution.ZIPFIAN))
+				.isNotEqualTo(workload(8L, LoadGeneratorProperties.KeyDistribution.ZIPFIAN));
+	}
+
+	@Test
+	void workloadFollowsTheConfiguredMix() {
+		List<CreditCardTransaction> workload = workload(7L, LoadGeneratorProperties.KeyDistribution.UNIFORM);
+
+		long corrupted = workload.stream().filter(t -> t.getCustomerFirstName() == null).count();
+		long orphaned = workload.stream()
+				.filter(t -> t.getCustomerFirstName() != null
+						&& t.getCustomerFirstName().startsWith(LoadGenerator.ORPHAN_PREFIX))
+				.count();
+		long valid = workload.stream()
+				.filter(t -> t.getCustomerFirstName() != null
+						&& t.getCustomerFirstName().startsWith(LoadGenerator.CUSTOMER_PREFIX))
+				.count();
+
+		assertThat(workload).hasSize(20_000);
+		assertThat(corrupted + orphaned + valid).isEqualTo(20_000);
+		assertThat(corrupted / 20_000.0).isBetween(0.08, 0.12);
+		assertThat(orphaned / 20_000.0).isBetween(0.18, 0.22);
+		assertThat(workload).allSatisfy(t -> assertThat(t.getAmount()).isBetween(5, 15));
+		assertThat(workload).filteredOn(t -> t.getCustomerFirstName() != null)
+				.allSatisfy(t -> {
+					String name = t.getCustomerFirstName();
+					int key = Integer.parseInt(name.substring(name.indexOf('-') + 1));
+					assertThat(key).isBetween(0, 99);
+				});
+	}
+
+	private static List<CreditCardTransaction> workload(long seed, LoadGeneratorProperties.KeyDistribution keys) {
+		LoadGeneratorProperties properties = new LoadGeneratorProperties();
+		properties.setSeed(seed);
+		properties.setCustomers(100);
+		properties.setRequests(20_000);
+		properties.setKeyDistribution(keys);
+		properties.setOrphanedRatio(0.2);
+		properties.setCorruptedRatio(0.1);
+		properties.setMinAmount(5);
+		properties.setMaxAmount(15);
+		return new LoadGenerator(properties, null, null, null).buildWorkload();
+	}
+}
@@ -0,0 +1,61 @@
+package Race.Condition.Demo.Project.loadgen;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZipfianGeneratorTest {
+
+	@Test
+	void singleItemIsAlwaysRankZero() {
+		ZipfianGenerator generator = new ZipfianGenerator(1, 0.99);
+		SplittableRandom random = new SplittableRandom(42);
+
+		for (int i = 0; i < 1_000; i++) {
+			assertThat(generator.next(random)).isZero();
+		}
+	}
+
+	@Test
+	void twoItemsStayInRangeAndBothOccur() {
+		ZipfianGenerator generator = new ZipfianGenerator(2, 0.99);
+		SplittableRandom random = new SplittableRandom(42);
+		int[] counts = new int[2];
+
+		for (int i = 0; i < 10_000; i++) {
+			long rank = generator.next(random);
+			assertThat(rank).isBetween(0L, 1L);
+			counts[(int) rank]++;
+		}
+
+		assertThat(counts[0]).isGreaterThan(counts[1]).isPositive();
+		assertThat(counts[1]).isPositive();
+	}
+
+	@Test
+	void rankZeroIsTheMostFrequent() {
+		int items = 1_000;
+		ZipfianGenerator generator = new ZipfianGenerator(items, 0.99);
+		SplittableRandom random = new SplittableRandom(42);
+		int[] counts = new int[items];
+
+		for (int i = 0; i < 100_000; i++) {
+			long rank = generator.next(random);
+			assertThat(rank).isBetween(0L, items - 1L);
+			counts[(int) rank]++;
+		}
+
+		for (int rank = 1; rank < items; rank++) {
+			assertThat(counts[0]).isGreaterThan(counts[rank]);
+		}
+	}
+
+	@Test
+	void rejectsThetaOutsideTheOpenUnitInterval() {
+		assertThatThrownBy(() -> new ZipfianGenerator(10, 1.0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ZipfianGenerator(10, 0.0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ZipfianGenerator(0, 0.5)).isInstanceOf(IllegalArgumentException.class);
+	}
+}